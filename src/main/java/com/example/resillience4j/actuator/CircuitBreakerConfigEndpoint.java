@@ -0,0 +1,85 @@
+package com.example.resillience4j.actuator;
+
+import com.example.resillience4j.service.CircuitBreakerConfigOverride;
+import com.example.resillience4j.service.CircuitBreakerConfigService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * read  : 현재 임계값 조회 (적용 대기 중인 설정이 있으면 pending 으로 함께 보여준다)
+ * write : 전달한 값만 교체 (나머지는 유지). OPEN / HALF_OPEN 이면 force 가 없는 한 상태를 벗어날 때 적용된다.
+ * <p>
+ * 인증 없이 브레이커를 바꿀 수 있으므로 web 에는 노출하지 않고 JMX 로만 노출한다. (application.yml)
+ */
+@Component
+@Endpoint(id = "circuitbreakerconfig")
+@RequiredArgsConstructor
+public class CircuitBreakerConfigEndpoint {
+    private final CircuitBreakerConfigService circuitBreakerConfigService;
+
+    @ReadOperation
+    public Map<String, Object> config(@Selector String name) {
+        return circuitBreakerConfigService.getConfig(name)
+                                          .map(config -> {
+                                              Map<String, Object> map = toMap(config);
+                                              circuitBreakerConfigService.getPendingConfig(name)
+                                                                         .ifPresent(pending -> map.put("pending", toMap(pending)));
+                                              return map;
+                                          })
+                                          .orElse(null);
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconfigure(@Selector String name,
+                                           @Nullable SlidingWindowType slidingWindowType,
+                                           @Nullable Integer slidingWindowSize,
+                                           @Nullable Integer minimumNumberOfCalls,
+                                           @Nullable Long waitDurationInOpenState,
+                                           @Nullable Float failureRateThreshold,
+                                           @Nullable Integer permittedNumberOfCallsInHalfOpenState,
+                                           @Nullable Boolean force) {
+        CircuitBreakerConfigOverride override = CircuitBreakerConfigOverride.builder()
+                                                                            .slidingWindowType(slidingWindowType)
+                                                                            .slidingWindowSize(slidingWindowSize)
+                                                                            .minimumNumberOfCalls(minimumNumberOfCalls)
+                                                                            .waitDurationInOpenState(waitDurationInOpenState)
+                                                                            .failureRateThreshold(failureRateThreshold)
+                                                                            .permittedNumberOfCallsInHalfOpenState(permittedNumberOfCallsInHalfOpenState)
+                                                                            .build();
+        CircuitBreakerConfigService.Reconfiguration reconfiguration;
+        try {
+            reconfiguration = circuitBreakerConfigService.reconfigure(name, override, Boolean.TRUE.equals(force))
+                                                .orElseThrow(() -> new InvalidEndpointRequestException("unknown circuit breaker: " + name,
+                                                                                                       "unknown circuit breaker"));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), "invalid circuit breaker config");
+        }
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("status", reconfiguration.getStatus());
+        map.putAll(toMap(reconfiguration.getConfig()));
+        return map;
+    }
+
+    private static Map<String, Object> toMap(CircuitBreakerConfig config) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("slidingWindowType", config.getSlidingWindowType());
+        map.put("slidingWindowSize", config.getSlidingWindowSize());
+        map.put("minimumNumberOfCalls", config.getMinimumNumberOfCalls());
+        map.put("waitDurationInOpenState", config.getWaitIntervalFunctionInOpenState().apply(1));
+        map.put("failureRateThreshold", config.getFailureRateThreshold());
+        map.put("permittedNumberOfCallsInHalfOpenState", config.getPermittedNumberOfCallsInHalfOpenState());
+        return map;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.resillience4j.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * {@link com.example.resillience4j.service.AppointmentDetailCache} 설정. slab 크기는 slots * slotSize 바이트.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("appointment.detail-cache")
+public class AppointmentDetailCacheProperties {
+    /**
+     * AppointmentDetailDTO 의 BinaryCodec 빈이 있어야 켤 수 있다.
+     */
+    private boolean enabled = false;
+    private int slots = 10_000;
+    private int slotSize = 2 * 1024;
+    /**
+     * lock 을 나눠 갖는 segment 수
+     */
+    private int segments = 16;
+    /**
+     * 브랜치별로 따로 캐시하지 않으므로 가장 자주 바뀌는 브랜치(화상 통화 상태)에 맞춘다.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+}
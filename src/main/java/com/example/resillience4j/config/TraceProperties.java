@@ -0,0 +1,20 @@
+package com.example.resillience4j.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 예약 상세 조회의 {@link com.example.resillience4j.util.RequestTrace} 설정
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("appointment.trace")
+public class TraceProperties {
+    /**
+     * span 을 기록할 요청 비율 (0.0 ~ 1.0). 샘플링되지 않은 요청은 fallback 여부만 기록한다.
+     */
+    private double sampleRate = 0.01;
+}
@@ -0,0 +1,65 @@
+package com.example.resillience4j.service;
+
+import com.example.resillience4j.config.AppointmentDetailCacheProperties;
+import com.example.resillience4j.dto.AppointmentDetailDTO;
+import com.example.resillience4j.util.BinaryCodec;
+import com.example.resillience4j.util.OffHeapCache;
+import com.example.resillience4j.util.RequestTrace;
+import lombok.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 조립된 {@link AppointmentDetailDTO} 캐시. 키는 예약 id 와 조회한 직원의 권한 범위({@link Scope}).
+ * <p>
+ * 브랜치별로 따로 캐시하지 않으므로 TTL 은 하나다. (appointment.detail-cache.ttl)
+ * fallback(ERROR DTO) 이 섞인 결과는 저장하지 않는다.
+ * <p>
+ * appointment.detail-cache.enabled 일 때만 생성되며, AppointmentDetailDTO 를 인코딩할 {@link BinaryCodec} 빈이 필요하다.
+ */
+@Component
+@ConditionalOnProperty(value = "appointment.detail-cache.enabled", havingValue = "true")
+public class AppointmentDetailCache {
+    private final OffHeapCache<Key, AppointmentDetailDTO> cache;
+    private final Duration ttl;
+
+    public AppointmentDetailCache(AppointmentDetailCacheProperties properties, BinaryCodec<AppointmentDetailDTO> codec) {
+        this.cache = new OffHeapCache<>(properties.getSlots(), properties.getSlotSize(), properties.getSegments(), codec);
+        this.ttl = properties.getTtl();
+    }
+
+    public Optional<AppointmentDetailDTO> get(long appointmentId, Scope scope) {
+        return cache.get(new Key(appointmentId, scope));
+    }
+
+    public void putIfComplete(long appointmentId, Scope scope, AppointmentDetailDTO appointmentDetail, RequestTrace trace) {
+        if (trace.hasFallback()) {
+            return;
+        }
+        cache.put(new Key(appointmentId, scope), appointmentDetail, ttl);
+    }
+
+    public long getOversizedCount() {
+        return cache.getOversizedCount();
+    }
+
+    /**
+     * 브랜치가 읽는 권한 정보. (ex. 화상 통화 상태는 직원별, 보험증/의료 문서는 역할별 열람 권한에 따라 달라진다)
+     * 브랜치가 새 권한 정보를 읽게 되면 여기에도 추가해야 다른 직원에게 캐시된 결과가 보이지 않는다.
+     */
+    @Value
+    public static class Scope {
+        long clinicId;
+        long staffId;
+        String role;
+    }
+
+    @Value
+    private static class Key {
+        long appointmentId;
+        Scope scope;
+    }
+}
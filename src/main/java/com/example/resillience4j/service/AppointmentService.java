@@ -1,38 +1,56 @@
 package com.example.resillience4j.service;
 
 import com.example.resillience4j.client.ScheduleClient;
+import com.example.resillience4j.config.TraceProperties;
 import com.example.resillience4j.domain.Appointment;
 import com.example.resillience4j.domain.StaffAuthInfo;
 import com.example.resillience4j.dto.AppointmentDetailDTO;
+import com.example.resillience4j.util.RequestTrace;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.function.TupleUtils;
 
 import java.util.List;
 
+import static com.example.resillience4j.util.ReactorUtils.fallback;
 import static com.example.resillience4j.util.ReactorUtils.list;
 import static com.example.resillience4j.util.ReactorUtils.object;
+import static com.example.resillience4j.util.ReactorUtils.withTrace;
 
+@Slf4j
 @RequiredArgsConstructor
 public class AppointmentService {
     private final ScheduleClient scheduleClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final TraceProperties traceProperties;
 
     public AppointmentDetailDTO getAppointmentDetail(StaffAuthInfo staffAuthInfo, long id) {
-        Appointment appointment = scheduleClient.getAppointments(id);
+        RequestTrace trace = RequestTrace.start(traceProperties.getSampleRate(), circuitBreakerRegistry);
+        Appointment appointment = trace.record("get appointment", "schedule", () -> scheduleClient.getAppointments(id));
         return Mono.zipDelayError(
                            Mono.just(appointmentDTO),
-                           object("get treatment with info", () -> treatmentService.getTreatmentWithInfo(treatmentId, patientId), TreatmentDTO.ERROR, reactorExecutor),
-                           list("get paymentHistories", () -> paymentHistoryService.getHistoryList(null, null, List.of(treatmentId), new Pageable(), SortType.LATEST), reactorExecutor)
+                           object("get treatment with info", "treatment", () -> treatmentService.getTreatmentWithInfo(treatmentId, patientId), TreatmentDTO.ERROR, reactorExecutor),
+                           list("get paymentHistories", "pay", () -> paymentHistoryService.getHistoryList(null, null, List.of(treatmentId), new Pageable(), SortType.LATEST), reactorExecutor)
                                    .flatMapMany(Flux::fromIterable)
                                    .singleOrEmpty()
-                                   .defaultIfEmpty(PaymentHistoryDTO.ERROR),
-                           object("get patient insuranceCard", () -> patientService.getFamilyInsuranceCard(patientId, familyId, obsAuthValue), InsuranceCardDTO.ERROR, reactorExecutor),
-                           object("get video call status", () -> videoCallService.getVideoCall(treatmentId, staffAuthInfo), VideoCallDTO.ERROR, reactorExecutor),
-                           object("get test patient info", () -> patientService.isTestPatient(patientId, staffAuthInfo.getClinicId()), false, reactorExecutor),
+                                   .switchIfEmpty(fallback(PaymentHistoryDTO.ERROR)),
+                           object("get patient insuranceCard", "account", () -> patientService.getFamilyInsuranceCard(patientId, familyId, obsAuthValue), InsuranceCardDTO.ERROR, reactorExecutor),
+                           object("get video call status", "communication", () -> videoCallService.getVideoCall(treatmentId, staffAuthInfo), VideoCallDTO.ERROR, reactorExecutor),
+                           object("get test patient info", "account", () -> patientService.isTestPatient(patientId, staffAuthInfo.getClinicId()), false, reactorExecutor),
                            Mono.just(videoUrlOpenLimitMinute),
-                           object("get patient medical document", () -> patientService.getFamilyMedicalDocument(patientId, familyId, obsAuthValue), MedicalDocumentDTO.ERROR, reactorExecutor))
+                           object("get patient medical document", "account", () -> patientService.getFamilyMedicalDocument(patientId, familyId, obsAuthValue), MedicalDocumentDTO.ERROR, reactorExecutor))
                    .map(TupleUtils.function(AppointmentDetailDTO::assemble))
+                   .doFinally(signal -> logTrace(id, trace))
+                   .subscriberContext(withTrace(trace))
                    .block();
     }
+
+    private void logTrace(long id, RequestTrace trace) {
+        if (trace.isSampled()) {
+            log.info("get appointment detail {} : {}", id, trace.summary());
+        }
+    }
 }
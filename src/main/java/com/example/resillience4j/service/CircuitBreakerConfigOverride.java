@@ -0,0 +1,72 @@
+package com.example.resillience4j.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 런타임에 바꿀 임계값. null 인 항목은 기존 값을 유지한다.
+ */
+@Value
+@Builder
+public class CircuitBreakerConfigOverride {
+    private static final Set<String> KEYS = Set.of("slidingWindowType",
+                                                   "slidingWindowSize",
+                                                   "minimumNumberOfCalls",
+                                                   "waitDurationInOpenState",
+                                                   "failureRateThreshold",
+                                                   "permittedNumberOfCallsInHalfOpenState");
+
+    SlidingWindowType slidingWindowType;
+    Integer slidingWindowSize;
+    Integer minimumNumberOfCalls;
+    Long waitDurationInOpenState;
+    Float failureRateThreshold;
+    Integer permittedNumberOfCallsInHalfOpenState;
+
+    /**
+     * overrides 파일의 인스턴스 항목 (ex. {@code waitDurationInOpenState: 5000}) 으로 만든다. 모르는 key 나 잘못된 값은 IllegalArgumentException
+     */
+    public static CircuitBreakerConfigOverride from(Map<?, ?> values) {
+        for (Object key : values.keySet()) {
+            if (!KEYS.contains(String.valueOf(key))) {
+                throw new IllegalArgumentException("unknown circuit breaker override: " + key);
+            }
+        }
+        Object slidingWindowType = values.get("slidingWindowType");
+        return CircuitBreakerConfigOverride.builder()
+                                           .slidingWindowType(slidingWindowType != null ? SlidingWindowType.valueOf(String.valueOf(slidingWindowType)) : null)
+                                           .slidingWindowSize(toInteger(values.get("slidingWindowSize")))
+                                           .minimumNumberOfCalls(toInteger(values.get("minimumNumberOfCalls")))
+                                           .waitDurationInOpenState(values.get("waitDurationInOpenState") != null ? Long.valueOf(String.valueOf(values.get("waitDurationInOpenState"))) : null)
+                                           .failureRateThreshold(values.get("failureRateThreshold") != null ? Float.valueOf(String.valueOf(values.get("failureRateThreshold"))) : null)
+                                           .permittedNumberOfCallsInHalfOpenState(toInteger(values.get("permittedNumberOfCallsInHalfOpenState")))
+                                           .build();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? Integer.valueOf(String.valueOf(value)) : null;
+    }
+
+    public CircuitBreakerConfig applyTo(CircuitBreakerConfig config) {
+        CircuitBreakerConfig.Builder builder = CircuitBreakerConfig.from(config)
+                                                                   .slidingWindow(slidingWindowSize != null ? slidingWindowSize : config.getSlidingWindowSize(),
+                                                                                  minimumNumberOfCalls != null ? minimumNumberOfCalls : config.getMinimumNumberOfCalls(),
+                                                                                  slidingWindowType != null ? slidingWindowType : config.getSlidingWindowType());
+        if (waitDurationInOpenState != null) {
+            builder.waitDurationInOpenState(Duration.ofMillis(waitDurationInOpenState));
+        }
+        if (failureRateThreshold != null) {
+            builder.failureRateThreshold(failureRateThreshold);
+        }
+        if (permittedNumberOfCallsInHalfOpenState != null) {
+            builder.permittedNumberOfCallsInHalfOpenState(permittedNumberOfCallsInHalfOpenState);
+        }
+        return builder.build();
+    }
+}
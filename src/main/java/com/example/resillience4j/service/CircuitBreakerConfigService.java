@@ -0,0 +1,219 @@
+package com.example.resillience4j.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 재시작 없이 인스턴스(account, pay, ...)의 서킷브레이커 임계값을 교체한다.
+ * <p>
+ * 새 설정으로 만든 브레이커를 registry 에 원자적으로 replace 하므로 진행 중인 호출은 기존 브레이커에서 그대로 끝나고,
+ * 이후 호출부터 새 브레이커를 사용한다.
+ * <ul>
+ *     <li>CLOSED / METRICS_ONLY : 기존 window 의 성공/실패/slow 호출 수를 새 브레이커에 다시 기록해서 집계를 이어간다.
+ *     기존/새 window 가 모두 COUNT_BASED 일 때만 이어간다. TIME_BASED 는 호출 시각을 알 수 없어 전부 현재 버킷에 들어가므로,
+ *     오래된 실패가 window 한 바퀴 동안 더 남지 않도록 빈 window 로 시작한다.</li>
+ *     <li>OPEN / HALF_OPEN : 기존 OPEN 만료 시각과 half-open 시험 호출을 잃지 않도록, 브레이커가 이 상태를 벗어날 때까지 교체를 미룬다.
+ *     force 를 주면 즉시 교체하고 새 브레이커는 새 waitDuration 으로 OPEN 에서 다시 시작한다.</li>
+ *     <li>FORCED_OPEN / DISABLED : 상태만 이어간다.</li>
+ * </ul>
+ * 기존 window 를 읽은 뒤 registry 에서 교체되기 전까지, 그리고 교체 후에도 기존 브레이커로 진행 중이던 호출의 결과는 기존 브레이커에 기록되어 새 브레이커로 옮겨지지 않는다.
+ * (replay 를 교체 전에 하는 이유는 교체 후에는 metrics / event consumer 가 붙어서 replay 한 호출이 호출 수로 집계되기 때문이다)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CircuitBreakerConfigService {
+    // replay 호출 수 상한. 큰 COUNT_BASED window 는 비율은 유지하고 호출 수만 줄인다. (minimumNumberOfCalls 보다 작아지지는 않는다)
+    private static final int MAX_REPLAYED_CALLS = 1_000;
+    private static final ReplayedCallFailure REPLAYED_FAILURE = new ReplayedCallFailure();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    // replay 용 predicate 가 섞이지 않은, 사용자가 지정한 설정
+    private final Map<String, CircuitBreakerConfig> configs = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreakerConfig> pendingConfigs = new ConcurrentHashMap<>();
+
+    public enum Status {
+        APPLIED,
+        PENDING
+    }
+
+    @Value
+    public static class Reconfiguration {
+        Status status;
+        CircuitBreakerConfig config;
+    }
+
+    public Optional<CircuitBreakerConfig> getConfig(String name) {
+        return circuitBreakerRegistry.find(name)
+                                     .map(circuitBreaker -> configs.getOrDefault(name, circuitBreaker.getCircuitBreakerConfig()));
+    }
+
+    public Optional<CircuitBreakerConfig> getPendingConfig(String name) {
+        return Optional.ofNullable(pendingConfigs.get(name));
+    }
+
+    public synchronized Optional<Reconfiguration> reconfigure(String name, CircuitBreakerConfigOverride override, boolean force) {
+        Optional<CircuitBreaker> current = circuitBreakerRegistry.find(name);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CircuitBreaker old = current.get();
+        CircuitBreakerConfig base = pendingConfigs.getOrDefault(name, configs.getOrDefault(name, old.getCircuitBreakerConfig()));
+        CircuitBreakerConfig config = override.applyTo(base);
+
+        if (!force && isWaiting(old.getState())) {
+            if (pendingConfigs.put(name, config) == null) {
+                old.getEventPublisher().onStateTransition(event -> applyPending(name, old, event.getStateTransition().getToState()));
+            }
+            // 상태를 확인한 뒤 listener 를 등록하기 전에 OPEN / HALF_OPEN 을 벗어났다면 이벤트를 놓쳤으므로 바로 적용한다.
+            CircuitBreaker.State state = old.getState();
+            if (!isWaiting(state)) {
+                applyPending(name, old, state);
+                return Optional.of(new Reconfiguration(Status.APPLIED, config));
+            }
+            log.info("circuit breaker '{}' is {}, reconfiguration is pending", name, state);
+            return Optional.of(new Reconfiguration(Status.PENDING, config));
+        }
+
+        pendingConfigs.remove(name);
+        swap(old, config);
+        return Optional.of(new Reconfiguration(Status.APPLIED, config));
+    }
+
+    private synchronized void applyPending(String name, CircuitBreaker circuitBreaker, CircuitBreaker.State toState) {
+        if (isWaiting(toState)) {
+            return;
+        }
+        // force 로 이미 교체된 브레이커에서 발생한 이벤트는 무시한다.
+        if (circuitBreakerRegistry.find(name).orElse(null) != circuitBreaker) {
+            return;
+        }
+        CircuitBreakerConfig config = pendingConfigs.remove(name);
+        if (config != null) {
+            swap(circuitBreaker, config);
+        }
+    }
+
+    private void swap(CircuitBreaker old, CircuitBreakerConfig config) {
+        String name = old.getName();
+        CircuitBreaker replacement = CircuitBreaker.of(name, withReplayedFailures(config), old.getTags());
+        carryOverState(old, replacement);
+        circuitBreakerRegistry.replace(name, replacement);
+        configs.put(name, config);
+        log.info("circuit breaker '{}' reconfigured (state: {})", name, replacement.getState());
+    }
+
+    private void carryOverState(CircuitBreaker old, CircuitBreaker replacement) {
+        switch (old.getState()) {
+            case CLOSED:
+                replayIfCountBased(old, replacement);
+                break;
+            case OPEN:
+            case HALF_OPEN:
+                replacement.transitionToOpenState();
+                break;
+            case FORCED_OPEN:
+                replacement.transitionToForcedOpenState();
+                break;
+            case DISABLED:
+                replacement.transitionToDisabledState();
+                break;
+            case METRICS_ONLY:
+                replacement.transitionToMetricsOnlyState();
+                replayIfCountBased(old, replacement);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void replayIfCountBased(CircuitBreaker old, CircuitBreaker replacement) {
+        if (old.getCircuitBreakerConfig().getSlidingWindowType() != SlidingWindowType.COUNT_BASED
+            || replacement.getCircuitBreakerConfig().getSlidingWindowType() != SlidingWindowType.COUNT_BASED) {
+            return;
+        }
+        replay(old.getMetrics(), replacement);
+    }
+
+    /**
+     * 기존 window 의 집계(빠른/느린 성공, 빠른/느린 실패)를 새 브레이커에 기록한다.
+     * 중간에 비율이 한쪽으로 쏠려서 잘못 OPEN 되지 않도록 네 종류를 고르게 섞는다.
+     */
+    private void replay(CircuitBreaker.Metrics metrics, CircuitBreaker replacement) {
+        CircuitBreakerConfig config = replacement.getCircuitBreakerConfig();
+        long slowNanos = config.getSlowCallDurationThreshold().toNanos() + 1;
+        int[] counts = {metrics.getNumberOfSuccessfulCalls() - metrics.getNumberOfSlowSuccessfulCalls(),
+                        metrics.getNumberOfSlowSuccessfulCalls(),
+                        metrics.getNumberOfFailedCalls() - metrics.getNumberOfSlowFailedCalls(),
+                        metrics.getNumberOfSlowFailedCalls()};
+        int total = counts[0] + counts[1] + counts[2] + counts[3];
+        int limit = Math.max(MAX_REPLAYED_CALLS, config.getMinimumNumberOfCalls());
+        if (total > limit) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = (int) Math.round((double) counts[i] * limit / total);
+            }
+            total = counts[0] + counts[1] + counts[2] + counts[3];
+        }
+
+        int[] replayed = new int[counts.length];
+        for (int call = 0; call < total; call++) {
+            int next = -1;
+            for (int i = 0; i < counts.length; i++) {
+                if (replayed[i] < counts[i]
+                    && (next < 0 || (long) replayed[i] * counts[next] < (long) replayed[next] * counts[i])) {
+                    next = i;
+                }
+            }
+            record(replacement, next, slowNanos);
+            replayed[next]++;
+        }
+    }
+
+    private void record(CircuitBreaker circuitBreaker, int kind, long slowNanos) {
+        switch (kind) {
+            case 0:
+                circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+                break;
+            case 1:
+                circuitBreaker.onSuccess(slowNanos, TimeUnit.NANOSECONDS);
+                break;
+            case 2:
+                circuitBreaker.onError(0, TimeUnit.NANOSECONDS, REPLAYED_FAILURE);
+                break;
+            default:
+                circuitBreaker.onError(slowNanos, TimeUnit.NANOSECONDS, REPLAYED_FAILURE);
+                break;
+        }
+    }
+
+    // recordExceptions 설정과 관계없이 replay 한 실패는 항상 실패로 기록되도록 한다.
+    private CircuitBreakerConfig withReplayedFailures(CircuitBreakerConfig config) {
+        Predicate<Throwable> recordException = config.getRecordExceptionPredicate();
+        return CircuitBreakerConfig.from(config)
+                                   .recordException(t -> t instanceof ReplayedCallFailure || recordException.test(t))
+                                   .build();
+    }
+
+    private static boolean isWaiting(CircuitBreaker.State state) {
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.HALF_OPEN;
+    }
+
+    private static class ReplayedCallFailure extends RuntimeException {
+        private ReplayedCallFailure() {
+            super("replayed failure", null, false, false);
+        }
+    }
+}
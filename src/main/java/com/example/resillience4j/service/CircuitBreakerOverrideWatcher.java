@@ -0,0 +1,132 @@
+package com.example.resillience4j.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * circuitbreaker.overrides-file 을 감시해서 바뀐 임계값을 {@link CircuitBreakerConfigService#reconfigure} 로 반영한다.
+ * <pre>
+ * account:
+ *   waitDurationInOpenState: 5000
+ * pay:
+ *   failureRateThreshold: 30
+ * </pre>
+ * 인스턴스별로 마지막에 반영한 값과 달라진 항목만 반영하며, 파일에서 지운 항목은 되돌리지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("circuitbreaker.overrides-file")
+public class CircuitBreakerOverrideWatcher {
+    private final CircuitBreakerConfigService circuitBreakerConfigService;
+    private final Path file;
+    private final Map<String, Map<?, ?>> applied = new HashMap<>();
+    private WatchService watchService;
+
+    public CircuitBreakerOverrideWatcher(CircuitBreakerConfigService circuitBreakerConfigService,
+                                         @Value("${circuitbreaker.overrides-file}") String file) {
+        this.circuitBreakerConfigService = circuitBreakerConfigService;
+        this.file = Paths.get(file).toAbsolutePath();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        reload();
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "circuitbreaker-overrides-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = key.pollEvents()
+                                     .stream()
+                                     .anyMatch(event -> file.getFileName().equals(event.context()));
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("circuit breaker overrides watcher stopped");
+        }
+    }
+
+    synchronized void reload() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Object loaded;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            loaded = new Yaml().load(reader);
+        } catch (IOException | YAMLException e) {
+            log.error("failed to read circuit breaker overrides: " + file, e);
+            return;
+        }
+        if (loaded == null) {
+            return;
+        }
+        if (!(loaded instanceof Map)) {
+            log.error("circuit breaker overrides must be a map of instance name to values: {}", file);
+            return;
+        }
+
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) loaded).entrySet()) {
+            String name = String.valueOf(entry.getKey());
+            if (!(entry.getValue() instanceof Map)) {
+                log.error("circuit breaker overrides for '{}' must be a map: {}", name, file);
+                continue;
+            }
+            Map<?, ?> values = (Map<?, ?>) entry.getValue();
+            if (values.equals(applied.get(name))) {
+                continue;
+            }
+            apply(name, values);
+        }
+    }
+
+    private void apply(String name, Map<?, ?> values) {
+        try {
+            circuitBreakerConfigService.reconfigure(name, CircuitBreakerConfigOverride.from(values), false)
+                                       .ifPresentOrElse(reconfiguration -> {
+                                                            applied.put(name, values);
+                                                            log.info("circuit breaker '{}' overrides from {} : {} ({})", name, file, values, reconfiguration.getStatus());
+                                                        },
+                                                        () -> log.warn("unknown circuit breaker '{}' in {}", name, file));
+        } catch (IllegalArgumentException e) {
+            log.error("invalid circuit breaker overrides for '" + name + "': " + file, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.resillience4j.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface BinaryCodec<T> {
+    /**
+     * out 의 남은 공간보다 크면 {@link java.nio.BufferOverflowException}
+     */
+    void write(T value, ByteBuffer out);
+
+    T read(ByteBuffer in) throws IOException;
+}
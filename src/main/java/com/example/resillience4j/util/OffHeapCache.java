@@ -0,0 +1,215 @@
+package com.example.resillience4j.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 값을 {@link BinaryCodec} 으로 인코딩해 미리 할당한 direct buffer(slab) 하나에 보관하는 TTL 캐시.
+ * <p>
+ * slab 은 고정 크기 slot 으로 나뉘고, heap 에는 key 와 slot 번호, slot 별 길이/만료 시각 배열만 남는다.
+ * slot 보다 큰 값은 저장하지 않고 {@link #getOversizedCount()} 로 집계한다. 빈 slot 이 없으면 CLOCK 으로 만료됐거나 최근에 읽히지 않은 slot 을 비운다.
+ * <p>
+ * 요청 스레드끼리 lock 을 다투지 않도록 slab 을 segment 로 나누고, key 의 hash 로 고른 segment 만 잠근다.
+ */
+@Slf4j
+public class OffHeapCache<K, V> {
+    private static final int MAX_CLOCK_STEPS = 64;
+
+    private final BinaryCodec<V> codec;
+    private final int slotSize;
+    private final Segment[] segments;
+    private final AtomicLong oversized = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public OffHeapCache(int slots, int slotSize, int segments, BinaryCodec<V> codec) {
+        if ((long) slots * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("slab too large: " + slots + " * " + slotSize);
+        }
+        if (segments < 1 || segments > slots) {
+            throw new IllegalArgumentException("segments must be between 1 and " + slots + ": " + segments);
+        }
+        this.codec = codec;
+        this.slotSize = slotSize;
+        this.segments = new OffHeapCache.Segment[segments];
+        ByteBuffer slab = ByteBuffer.allocateDirect(slots * slotSize);
+        int offset = 0;
+        for (int i = 0; i < segments; i++) {
+            int segmentSlots = slots / segments + (i < slots % segments ? 1 : 0);
+            ByteBuffer region = slab.duplicate();
+            region.position(offset * slotSize);
+            region.limit((offset + segmentSlots) * slotSize);
+            this.segments[i] = new Segment(region.slice(), segmentSlots);
+            offset += segmentSlots;
+        }
+    }
+
+    public Optional<V> get(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        segmentFor(key).put(key, value, ttl);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * slot 보다 커서 저장하지 않은 횟수. 늘어난다면 slot 크기를 키워야 한다.
+     */
+    public long getOversizedCount() {
+        return oversized.get();
+    }
+
+    private Segment segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    private void recordOversized() {
+        long count = oversized.incrementAndGet();
+        // 매번 남기면 로그가 넘치므로 1, 2, 4, 8 ... 번째에만 남긴다.
+        if ((count & (count - 1)) == 0) {
+            log.warn("value is larger than off-heap cache slot ({} bytes), skipped {} times", slotSize, count);
+        }
+    }
+
+    private class Segment {
+        private final ByteBuffer slab;
+        private final Object[] keys;
+        private final int[] lengths;
+        private final long[] expiresAtNanos;
+        private final boolean[] referenced;
+        private final int[] freeSlots;
+        private final Map<K, Integer> index;
+        private int freeCount;
+        private int hand;
+
+        private Segment(ByteBuffer slab, int slots) {
+            this.slab = slab;
+            this.keys = new Object[slots];
+            this.lengths = new int[slots];
+            this.expiresAtNanos = new long[slots];
+            this.referenced = new boolean[slots];
+            this.freeSlots = new int[slots];
+            for (int slot = slots - 1; slot >= 0; slot--) {
+                freeSlots[freeCount++] = slot;
+            }
+            this.index = new HashMap<>(slots * 4 / 3 + 1);
+        }
+
+        private synchronized Optional<V> get(K key) {
+            Integer slot = index.get(key);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            if (isExpired(slot, System.nanoTime())) {
+                free(slot);
+                return Optional.empty();
+            }
+            try {
+                V value = codec.read(view(slot, lengths[slot]));
+                referenced[slot] = true;
+                return Optional.of(value);
+            } catch (IOException | BufferUnderflowException e) {
+                log.error("off-heap cache decode failed", e);
+                free(slot);
+                return Optional.empty();
+            }
+        }
+
+        private synchronized void put(K key, V value, Duration ttl) {
+            long now = System.nanoTime();
+            Integer existing = index.get(key);
+            int slot = existing != null ? existing : allocate(now);
+            boolean written = false;
+            try {
+                ByteBuffer out = view(slot, slotSize);
+                codec.write(value, out);
+                lengths[slot] = out.position();
+                written = true;
+            } catch (BufferOverflowException e) {
+                recordOversized();
+            } finally {
+                if (!written) {
+                    // 기존 값 위에 쓰다 실패했으면 기존 값도 깨졌으므로 함께 비운다.
+                    if (existing != null) {
+                        free(slot);
+                    } else {
+                        freeSlots[freeCount++] = slot;
+                    }
+                }
+            }
+            if (!written) {
+                return;
+            }
+            keys[slot] = key;
+            expiresAtNanos[slot] = now + ttl.toNanos();
+            referenced[slot] = false;
+            index.put(key, slot);
+        }
+
+        private synchronized int size() {
+            return index.size();
+        }
+
+        private int allocate(long now) {
+            if (freeCount == 0) {
+                evictOne(now);
+            }
+            return freeSlots[--freeCount];
+        }
+
+        // 최대 MAX_CLOCK_STEPS 개의 slot 만 확인하고, 그 안에 후보가 없으면 다음 slot 을 비운다.
+        private void evictOne(long now) {
+            for (int step = 0; step < MAX_CLOCK_STEPS; step++) {
+                int slot = advanceHand();
+                if (!referenced[slot] || isExpired(slot, now)) {
+                    free(slot);
+                    return;
+                }
+                referenced[slot] = false;
+            }
+            free(advanceHand());
+        }
+
+        private int advanceHand() {
+            int slot = hand;
+            hand = (hand + 1) % keys.length;
+            return slot;
+        }
+
+        private boolean isExpired(int slot, long now) {
+            return now - expiresAtNanos[slot] >= 0;
+        }
+
+        private ByteBuffer view(int slot, int length) {
+            ByteBuffer view = slab.duplicate();
+            view.position(slot * slotSize);
+            view.limit(slot * slotSize + length);
+            return view.slice();
+        }
+
+        private void free(int slot) {
+            index.remove(keys[slot]);
+            keys[slot] = null;
+            referenced[slot] = false;
+            freeSlots[freeCount++] = slot;
+        }
+    }
+}
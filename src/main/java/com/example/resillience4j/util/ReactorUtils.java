@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import java.time.Duration;
 import java.util.Collections;
@@ -32,6 +33,40 @@ public class ReactorUtils {
         return Mono.just(fallback);
     }
 
+    public static Function<Context, Context> withTrace(RequestTrace trace) {
+        return context -> context.put(RequestTrace.class, trace);
+    }
+
+    public static <T> Mono<T> traced(String name, Function<RequestTrace.Span, Mono<T>> branch) {
+        return traced(name, null, branch);
+    }
+
+    /**
+     * Context 에 {@link RequestTrace} 가 있으면 브랜치의 시작/종료, 스레드 전환, fallback 사유, 서킷브레이커 상태를 span 으로 기록한다.
+     */
+    public static <T> Mono<T> traced(String name, String circuitBreakerName, Function<RequestTrace.Span, Mono<T>> branch) {
+        return Mono.deferWithContext(context -> {
+            RequestTrace.Span span = context.getOrDefault(RequestTrace.class, RequestTrace.NOOP).open(name, circuitBreakerName);
+            if (!span.isRecording()) {
+                return branch.apply(span);
+            }
+            // doFinally 는 downstream 에 완료가 전달된 뒤에 실행되므로, zip 결과보다 먼저 종료 시각이 기록되도록 doOnTerminate 를 쓴다.
+            return branch.apply(span)
+                         .doOnTerminate(span::end)
+                         .doOnCancel(span::end);
+        });
+    }
+
+    /**
+     * 브랜치 밖에서 fallback 값으로 대체할 때 사용한다. (ex. switchIfEmpty) Context 의 {@link RequestTrace} 에 fallback 으로 기록된다.
+     */
+    public static <T> Mono<T> fallback(T fallback) {
+        return Mono.deferWithContext(context -> {
+            context.getOrDefault(RequestTrace.class, RequestTrace.NOOP).markFallback();
+            return Mono.just(fallback);
+        });
+    }
+
     public static <T> Mono<T> objectWithoutErrorHandle(Supplier<T> supplier,
                                                        ThreadPoolTaskExecutor executor) {
         return Mono.defer(execute(supplier))
@@ -42,9 +77,27 @@ public class ReactorUtils {
                                      Supplier<T> supplier,
                                      T fallback,
                                      ThreadPoolTaskExecutor executor) {
-        return Mono.defer(execute(supplier))
-                   .subscribeOn(Schedulers.fromExecutor(executor))
-                   .onErrorResume(t -> objectErrorResume(name, t, fallback));
+        return object(name, (String) null, supplier, fallback, executor);
+    }
+
+    /**
+     * circuitBreakerName : 브랜치가 사용하는 서킷브레이커. span 에 상태가 기록된다.
+     * <p>
+     * {@code @CircuitBreaker(fallbackMethod = ...)} 처럼 supplier 가 fallback 과 같은 인스턴스(ex. ERROR DTO)를 반환해도 fallback 으로 기록된다.
+     */
+    public static <T> Mono<T> object(String name,
+                                     String circuitBreakerName,
+                                     Supplier<T> supplier,
+                                     T fallback,
+                                     ThreadPoolTaskExecutor executor) {
+        return traced(name, circuitBreakerName, span -> Mono.defer(execute(supplier))
+                                                            .doOnNext(result -> markFallbackValue(span, result, fallback))
+                                                            .doOnSubscribe(s -> span.handOff())
+                                                            .subscribeOn(Schedulers.fromExecutor(executor))
+                                                            .onErrorResume(t -> {
+                                                                span.fallback(t);
+                                                                return objectErrorResume(name, t, fallback);
+                                                            }));
     }
 
     public static <T> Mono<T> object(String name,
@@ -52,10 +105,39 @@ public class ReactorUtils {
                                      T fallback,
                                      ThreadPoolTaskExecutor executor,
                                      Duration timeout) {
-        return Mono.defer(execute(supplier))
-                   .subscribeOn(Schedulers.fromExecutor(executor))
-                   .timeout(timeout, Mono.just(fallback))
-                   .onErrorResume(t -> objectErrorResume(name, t, fallback));
+        return object(name, null, supplier, fallback, executor, timeout);
+    }
+
+    public static <T> Mono<T> object(String name,
+                                     String circuitBreakerName,
+                                     Supplier<T> supplier,
+                                     T fallback,
+                                     ThreadPoolTaskExecutor executor,
+                                     Duration timeout) {
+        return traced(name, circuitBreakerName, span -> Mono.defer(execute(supplier))
+                                                            .doOnNext(result -> markFallbackValue(span, result, fallback))
+                                                            .doOnSubscribe(s -> span.handOff())
+                                                            .subscribeOn(Schedulers.fromExecutor(executor))
+                                                            .timeout(timeout, Mono.defer(() -> {
+                                                                span.timeout(timeout);
+                                                                return Mono.just(fallback);
+                                                            }))
+                                                            .onErrorResume(t -> {
+                                                                span.fallback(t);
+                                                                return objectErrorResume(name, t, fallback);
+                                                            }));
+    }
+
+    // Boolean, Number 등은 캐시된 같은 인스턴스가 정상 값으로도 반환되므로 sentinel 로 보지 않는다.
+    private static <T> void markFallbackValue(RequestTrace.Span span, T result, T fallback) {
+        if (result != fallback
+            || fallback instanceof Boolean
+            || fallback instanceof Number
+            || fallback instanceof Character
+            || fallback instanceof String) {
+            return;
+        }
+        span.fallbackValue();
     }
 
     public static <T> Mono<T> object(String name,
@@ -86,9 +168,20 @@ public class ReactorUtils {
     public static <T> Mono<List<T>> list(String name,
                                          Supplier<List<T>> supplier,
                                          ThreadPoolTaskExecutor executor) {
-        return Mono.defer(executeList(supplier))
-                   .subscribeOn(Schedulers.fromExecutor(executor))
-                   .onErrorResume(t -> ReactorUtils.listErrorResume(name, t));
+        return list(name, (String) null, supplier, executor);
+    }
+
+    public static <T> Mono<List<T>> list(String name,
+                                         String circuitBreakerName,
+                                         Supplier<List<T>> supplier,
+                                         ThreadPoolTaskExecutor executor) {
+        return traced(name, circuitBreakerName, span -> Mono.defer(executeList(supplier))
+                                                            .doOnSubscribe(s -> span.handOff())
+                                                            .subscribeOn(Schedulers.fromExecutor(executor))
+                                                            .onErrorResume(t -> {
+                                                                span.fallback(t);
+                                                                return ReactorUtils.listErrorResume(name, t);
+                                                            }));
     }
 
     public static <T, K, V> Mono<Map<K, V>> map(String name,
@@ -118,10 +211,25 @@ public class ReactorUtils {
                                          Supplier<List<T>> supplier,
                                          ThreadPoolTaskExecutor executor,
                                          Duration timeout) {
-        return Mono.defer(executeList(supplier))
-                   .timeout(timeout, Mono.just(Collections.emptyList()))
-                   .onErrorResume(t -> ReactorUtils.listErrorResume(name, t))
-                   .subscribeOn(Schedulers.fromExecutor(executor));
+        return list(name, null, supplier, executor, timeout);
+    }
+
+    public static <T> Mono<List<T>> list(String name,
+                                         String circuitBreakerName,
+                                         Supplier<List<T>> supplier,
+                                         ThreadPoolTaskExecutor executor,
+                                         Duration timeout) {
+        return traced(name, circuitBreakerName, span -> Mono.defer(executeList(supplier))
+                                                            .doOnSubscribe(s -> span.handOff())
+                                                            .timeout(timeout, Mono.defer(() -> {
+                                                                span.timeout(timeout);
+                                                                return Mono.just(Collections.<T>emptyList());
+                                                            }))
+                                                            .onErrorResume(t -> {
+                                                                span.fallback(t);
+                                                                return ReactorUtils.listErrorResume(name, t);
+                                                            })
+                                                            .subscribeOn(Schedulers.fromExecutor(executor)));
     }
 
     public static <T> Supplier<Mono<List<T>>> executeList(Supplier<List<T>> supplier) {
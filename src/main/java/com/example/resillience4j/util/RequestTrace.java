@@ -0,0 +1,229 @@
+package com.example.resillience4j.util;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 요청 하나의 fan-out 브랜치별 span 수집기. Reactor Context 로 전달된다. ({@link ReactorUtils#withTrace(RequestTrace)})
+ * <p>
+ * 샘플링되지 않은 요청은 브랜치마다 span 을 만들지 않고 fallback 여부만 기록한다.
+ */
+public class RequestTrace {
+    public static final RequestTrace NOOP = new RequestTrace(false, null);
+
+    @Getter
+    private final boolean sampled;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+    private final Span unsampledSpan = new Span(this);
+    private volatile boolean fallback;
+
+    private RequestTrace(boolean sampled, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.sampled = sampled;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    public static RequestTrace start(double sampleRate, CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new RequestTrace(ThreadLocalRandom.current().nextDouble() < sampleRate, circuitBreakerRegistry);
+    }
+
+    /**
+     * 샘플링 여부와 관계없이 하나 이상의 브랜치가 fallback 값을 반환했는지 여부
+     */
+    public boolean hasFallback() {
+        return fallback;
+    }
+
+    public void markFallback() {
+        // Context 에 trace 가 없을 때 쓰는 공유 인스턴스이므로 상태를 바꾸지 않는다.
+        if (this == NOOP) {
+            return;
+        }
+        fallback = true;
+    }
+
+    public Span open(String name, String circuitBreakerName) {
+        if (!sampled) {
+            return unsampledSpan;
+        }
+        Span span = new Span(name, circuitBreakerName, this);
+        spans.add(span);
+        return span;
+    }
+
+    /**
+     * fan-out 전에 호출 스레드에서 동기로 실행되는 구간을 span 으로 기록한다. (ex. zip 에 필요한 예약 조회)
+     */
+    public <T> T record(String name, String circuitBreakerName, Supplier<T> supplier) {
+        Span span = open(name, circuitBreakerName);
+        span.handOff();
+        try {
+            return supplier.get();
+        } finally {
+            span.end();
+        }
+    }
+
+    public List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * 가장 늦게 끝난 span 에서 시작해, 그 span 이 시작되기 전에 끝난 span 중 가장 늦게 끝난 것을 거슬러 올라가며 critical path 로 본다.
+     * zip 으로 묶인 fan-out 은 가장 늦은 브랜치가, 그 앞의 동기 호출(ex. 예약 조회)은 fan-out 시작 시점을 결정한다.
+     */
+    public String summary() {
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        List<Span> sorted = spans.stream()
+                                 .sorted(Comparator.comparingLong(Span::getEndNanos).reversed())
+                                 .collect(Collectors.toList());
+        if (sorted.isEmpty()) {
+            return "total=" + totalMillis + "ms, no branches";
+        }
+        return "total=" + totalMillis + "ms, critical=" + criticalPath(sorted) + ", branches=" + sorted;
+    }
+
+    private static String criticalPath(List<Span> sortedByEndDesc) {
+        LinkedList<Span> path = new LinkedList<>();
+        path.add(sortedByEndDesc.get(0));
+        for (Span span : sortedByEndDesc) {
+            if (span.endNanos != 0 && span.endNanos <= path.getFirst().startNanos) {
+                path.addFirst(span);
+            }
+        }
+        return path.stream()
+                   .map(span -> "[" + span + "]")
+                   .collect(Collectors.joining(" -> "));
+    }
+
+    private String breakerState(String circuitBreakerName) {
+        if (circuitBreakerRegistry == null) {
+            return null;
+        }
+        return circuitBreakerRegistry.find(circuitBreakerName)
+                                     .map(CircuitBreaker::getState)
+                                     .map(Enum::name)
+                                     .orElse(null);
+    }
+
+    public static class Span {
+        @Getter
+        private final String name;
+        private final RequestTrace trace;
+        @Getter
+        private final boolean recording;
+        @Getter
+        private final long startNanos;
+        @Getter
+        private final String subscribeThread;
+        @Getter
+        private volatile long handOffNanos;
+        @Getter
+        private volatile long endNanos;
+        @Getter
+        private volatile String executeThread;
+        @Getter
+        private volatile String fallbackReason;
+        @Getter
+        private volatile String circuitBreakerName;
+        @Getter
+        private volatile String circuitBreakerState;
+
+        private Span(String name, String circuitBreakerName, RequestTrace trace) {
+            this.name = name;
+            this.circuitBreakerName = circuitBreakerName;
+            this.trace = trace;
+            this.recording = true;
+            this.startNanos = System.nanoTime();
+            this.subscribeThread = Thread.currentThread().getName();
+        }
+
+        private Span(RequestTrace trace) {
+            this.name = null;
+            this.trace = trace;
+            this.recording = false;
+            this.startNanos = 0;
+            this.subscribeThread = null;
+        }
+
+        public void handOff() {
+            if (!recording) {
+                return;
+            }
+            handOffNanos = System.nanoTime();
+            executeThread = Thread.currentThread().getName();
+        }
+
+        public void fallback(Throwable t) {
+            trace.markFallback();
+            if (!recording) {
+                return;
+            }
+            fallbackReason = t.getClass().getSimpleName();
+            if (circuitBreakerName == null && t instanceof CallNotPermittedException) {
+                circuitBreakerName = ((CallNotPermittedException) t).getCausingCircuitBreakerName();
+            }
+        }
+
+        /**
+         * supplier 가 fallback 인스턴스를 그대로 반환한 경우 (ex. {@code @CircuitBreaker} 의 fallbackMethod 가 ERROR DTO 를 반환)
+         */
+        public void fallbackValue() {
+            trace.markFallback();
+            if (!recording) {
+                return;
+            }
+            fallbackReason = "fallback value";
+        }
+
+        public void timeout(Duration timeout) {
+            trace.markFallback();
+            if (!recording) {
+                return;
+            }
+            fallbackReason = "timeout(" + timeout.toMillis() + "ms)";
+        }
+
+        public void end() {
+            if (!recording) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            if (circuitBreakerName != null) {
+                circuitBreakerState = trace.breakerState(circuitBreakerName);
+            }
+        }
+
+        @Override
+        public String toString() {
+            long queueMillis = handOffNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(handOffNanos - startNanos);
+            long totalMillis = endNanos == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+            StringBuilder sb = new StringBuilder().append(name)
+                                                  .append(' ').append(totalMillis).append("ms")
+                                                  .append(" (queue ").append(queueMillis).append("ms, ")
+                                                  .append(subscribeThread).append(" -> ").append(executeThread).append(')');
+            if (fallbackReason != null) {
+                sb.append(" fallback=").append(fallbackReason);
+            }
+            if (circuitBreakerName != null) {
+                sb.append(" breaker=").append(circuitBreakerName).append(':').append(circuitBreakerState);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.resillience4j.service;
+
+import com.example.resillience4j.config.AppointmentDetailCacheProperties;
+import com.example.resillience4j.dto.AppointmentDetailDTO;
+import com.example.resillience4j.service.AppointmentDetailCache.Scope;
+import com.example.resillience4j.util.BinaryCodec;
+import com.example.resillience4j.util.RequestTrace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentDetailCacheTest {
+    // AppointmentDetailDTO 에 아직 필드가 없어 표식 1 byte 만 쓰는 테스트용 codec
+    private static final BinaryCodec<AppointmentDetailDTO> CODEC = new BinaryCodec<>() {
+        @Override
+        public void write(AppointmentDetailDTO value, ByteBuffer out) {
+            out.put((byte) 1);
+        }
+
+        @Override
+        public AppointmentDetailDTO read(ByteBuffer in) {
+            in.get();
+            return new AppointmentDetailDTO();
+        }
+    };
+    private static final Scope DOCTOR = new Scope(10L, 100L, "DOCTOR");
+
+    private AppointmentDetailCache appointmentDetailCache;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentDetailCacheProperties properties = new AppointmentDetailCacheProperties();
+        properties.setSlots(16);
+        properties.setSlotSize(64);
+        properties.setSegments(1);
+        properties.setTtl(Duration.ofMinutes(1));
+        appointmentDetailCache = new AppointmentDetailCache(properties, CODEC);
+    }
+
+    @Test
+    void completeResultIsCached() {
+        appointmentDetailCache.putIfComplete(1L, DOCTOR, new AppointmentDetailDTO(), RequestTrace.start(0.0, null));
+
+        assertThat(appointmentDetailCache.get(1L, DOCTOR)).isPresent();
+    }
+
+    @Test
+    void cacheIsScopedByClinic() {
+        appointmentDetailCache.putIfComplete(1L, DOCTOR, new AppointmentDetailDTO(), RequestTrace.start(0.0, null));
+
+        assertThat(appointmentDetailCache.get(1L, new Scope(20L, 100L, "DOCTOR"))).isEmpty();
+    }
+
+    @Test
+    void staffInSameClinicDoNotShareEntry() {
+        appointmentDetailCache.putIfComplete(1L, DOCTOR, new AppointmentDetailDTO(), RequestTrace.start(0.0, null));
+
+        assertThat(appointmentDetailCache.get(1L, new Scope(10L, 200L, "DOCTOR"))).isEmpty();
+        assertThat(appointmentDetailCache.get(1L, new Scope(10L, 100L, "NURSE"))).isEmpty();
+    }
+
+    @Test
+    void fallbackResultIsNotCached() {
+        RequestTrace trace = RequestTrace.start(0.0, null);
+        trace.open("get patient insuranceCard", "account").fallbackValue();
+
+        appointmentDetailCache.putIfComplete(1L, DOCTOR, new AppointmentDetailDTO(), trace);
+
+        assertThat(appointmentDetailCache.get(1L, DOCTOR)).isEmpty();
+    }
+}
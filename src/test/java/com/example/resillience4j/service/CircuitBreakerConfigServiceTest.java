@@ -0,0 +1,174 @@
+package com.example.resillience4j.service;
+
+import com.example.resillience4j.service.CircuitBreakerConfigService.Status;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerConfigServiceTest {
+    private static final CircuitBreakerConfigOverride WAIT_5S = CircuitBreakerConfigOverride.builder()
+                                                                                            .waitDurationInOpenState(5000L)
+                                                                                            .build();
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private CircuitBreaker circuitBreaker;
+    private CircuitBreakerConfigService circuitBreakerConfigService;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                                                                               .slidingWindow(10, 10, SlidingWindowType.COUNT_BASED)
+                                                                               .failureRateThreshold(50)
+                                                                               .build());
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker("account");
+        circuitBreakerConfigService = new CircuitBreakerConfigService(circuitBreakerRegistry);
+    }
+
+    @Test
+    void unknownCircuitBreaker() {
+        assertThat(circuitBreakerConfigService.reconfigure("unknown", WAIT_5S, false)).isEmpty();
+    }
+
+    @Test
+    void closedKeepsWindowAggregates() {
+        record(circuitBreaker, 3, 2);
+
+        assertThat(statusOf(WAIT_5S, false)).isEqualTo(Status.APPLIED);
+
+        CircuitBreaker replacement = current();
+        assertThat(replacement).isNotSameAs(circuitBreaker);
+        assertThat(replacement.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(replacement.getMetrics().getNumberOfBufferedCalls()).isEqualTo(5);
+        assertThat(replacement.getMetrics().getNumberOfFailedCalls()).isEqualTo(2);
+        assertThat(circuitBreakerConfigService.getConfig("account")
+                                              .map(config -> config.getWaitIntervalFunctionInOpenState().apply(1))).contains(5000L);
+    }
+
+    @Test
+    void closedAppliesNewThresholdToKeptWindow() {
+        record(circuitBreaker, 6, 4);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreakerConfigService.reconfigure("account", CircuitBreakerConfigOverride.builder().failureRateThreshold(30f).build(), false);
+
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void openIsDeferredUntilBreakerLeavesOpen() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThat(statusOf(WAIT_5S, false)).isEqualTo(Status.PENDING);
+        assertThat(current()).isSameAs(circuitBreaker);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreakerConfigService.getPendingConfig("account")).isPresent();
+
+        circuitBreaker.transitionToHalfOpenState();
+        assertThat(current()).isSameAs(circuitBreaker);
+
+        circuitBreaker.transitionToClosedState();
+        assertThat(current()).isNotSameAs(circuitBreaker);
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(current().getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1)).isEqualTo(5000L);
+        assertThat(circuitBreakerConfigService.getPendingConfig("account")).isEmpty();
+    }
+
+    @Test
+    void openWithForceIsAppliedImmediately() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThat(statusOf(WAIT_5S, true)).isEqualTo(Status.APPLIED);
+        assertThat(current()).isNotSameAs(circuitBreaker);
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenIsDeferred() {
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertThat(statusOf(WAIT_5S, false)).isEqualTo(Status.PENDING);
+        assertThat(current()).isSameAs(circuitBreaker);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void pendingOverridesAccumulate() {
+        circuitBreaker.transitionToOpenState();
+        circuitBreakerConfigService.reconfigure("account", WAIT_5S, false);
+        circuitBreakerConfigService.reconfigure("account", CircuitBreakerConfigOverride.builder().failureRateThreshold(30f).build(), false);
+
+        CircuitBreakerConfig pending = circuitBreakerConfigService.getPendingConfig("account").orElseThrow();
+        assertThat(pending.getWaitIntervalFunctionInOpenState().apply(1)).isEqualTo(5000L);
+        assertThat(pending.getFailureRateThreshold()).isEqualTo(30f);
+    }
+
+    @Test
+    void forcedOpenIsKept() {
+        circuitBreaker.transitionToForcedOpenState();
+
+        circuitBreakerConfigService.reconfigure("account", WAIT_5S, false);
+
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.FORCED_OPEN);
+    }
+
+    @Test
+    void disabledIsKept() {
+        circuitBreaker.transitionToDisabledState();
+
+        circuitBreakerConfigService.reconfigure("account", WAIT_5S, false);
+
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.DISABLED);
+    }
+
+    @Test
+    void metricsOnlyIsKeptWithWindow() {
+        circuitBreaker.transitionToMetricsOnlyState();
+        record(circuitBreaker, 3, 2);
+
+        circuitBreakerConfigService.reconfigure("account", WAIT_5S, false);
+
+        assertThat(current().getState()).isEqualTo(CircuitBreaker.State.METRICS_ONLY);
+        assertThat(current().getMetrics().getNumberOfFailedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void timeBasedWindowIsNotReplayed() {
+        circuitBreakerConfigService.reconfigure("account", CircuitBreakerConfigOverride.builder()
+                                                                                        .slidingWindowType(SlidingWindowType.TIME_BASED)
+                                                                                        .build(), false);
+        CircuitBreaker timeBased = current();
+        record(timeBased, 3, 2);
+
+        circuitBreakerConfigService.reconfigure("account", WAIT_5S, false);
+
+        assertThat(current()).isNotSameAs(timeBased);
+        assertThat(current().getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    private Status statusOf(CircuitBreakerConfigOverride override, boolean force) {
+        return circuitBreakerConfigService.reconfigure("account", override, force)
+                                          .orElseThrow()
+                                          .getStatus();
+    }
+
+    private CircuitBreaker current() {
+        return circuitBreakerRegistry.find("account").orElseThrow();
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, int successes, int failures) {
+        for (int i = 0; i < successes; i++) {
+            circuitBreaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        }
+        for (int i = 0; i < failures; i++) {
+            circuitBreaker.onError(1, TimeUnit.MILLISECONDS, new IllegalStateException());
+        }
+    }
+}
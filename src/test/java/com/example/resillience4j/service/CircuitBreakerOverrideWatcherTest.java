@@ -0,0 +1,84 @@
+package com.example.resillience4j.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerOverrideWatcherTest {
+    @TempDir
+    Path directory;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private Path file;
+    private CircuitBreakerOverrideWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        circuitBreakerRegistry.circuitBreaker("account");
+        file = directory.resolve("circuitbreaker-overrides.yml");
+        watcher = new CircuitBreakerOverrideWatcher(new CircuitBreakerConfigService(circuitBreakerRegistry), file.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.stop();
+    }
+
+    @Test
+    void reloadAppliesOverrides() throws IOException {
+        Files.writeString(file, "account:\n  waitDurationInOpenState: 5000\n  failureRateThreshold: 30\n");
+
+        watcher.reload();
+
+        CircuitBreaker circuitBreaker = current();
+        assertThat(circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1)).isEqualTo(5000L);
+        assertThat(circuitBreaker.getCircuitBreakerConfig().getFailureRateThreshold()).isEqualTo(30f);
+    }
+
+    @Test
+    void unchangedOverridesAreNotReapplied() throws IOException {
+        Files.writeString(file, "account:\n  waitDurationInOpenState: 5000\n");
+        watcher.reload();
+        CircuitBreaker applied = current();
+
+        watcher.reload();
+
+        assertThat(current()).isSameAs(applied);
+    }
+
+    @Test
+    void invalidOverridesAreIgnored() throws IOException {
+        CircuitBreaker original = current();
+        Files.writeString(file, "account:\n  unknownKey: 1\nunknown:\n  failureRateThreshold: 30\n");
+
+        watcher.reload();
+
+        assertThat(current()).isSameAs(original);
+    }
+
+    @Test
+    void watchesFileChanges() throws IOException, InterruptedException {
+        watcher.start();
+
+        Files.writeString(file, "account:\n  waitDurationInOpenState: 7000\n");
+
+        for (int i = 0; i < 100 && current().getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1) != 7000L; i++) {
+            Thread.sleep(100L);
+        }
+        assertThat(current().getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1)).isEqualTo(7000L);
+    }
+
+    private CircuitBreaker current() {
+        return circuitBreakerRegistry.find("account").orElseThrow();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.resillience4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapCacheTest {
+    private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+    private static final BinaryCodec<Long> LONG_CODEC = new BinaryCodec<>() {
+        @Override
+        public void write(Long value, ByteBuffer out) {
+            out.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    @Test
+    void putAndGet() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(4, 16, 1, LONG_CODEC);
+
+        cache.put("a", 42L, ONE_MINUTE);
+
+        assertThat(cache.get("a")).contains(42L);
+        assertThat(cache.get("b")).isEmpty();
+    }
+
+    @Test
+    void putOverwritesExistingKey() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(4, 16, 1, LONG_CODEC);
+
+        cache.put("a", 1L, ONE_MINUTE);
+        cache.put("a", 2L, ONE_MINUTE);
+
+        assertThat(cache.get("a")).contains(2L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsRemoved() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(4, 16, 1, LONG_CODEC);
+
+        cache.put("a", 42L, Duration.ZERO);
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void fullCacheEvictsEntryNotReadRecently() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(2, 16, 1, LONG_CODEC);
+        cache.put("a", 1L, ONE_MINUTE);
+        cache.put("b", 2L, ONE_MINUTE);
+        cache.get("a");
+
+        cache.put("c", 3L, ONE_MINUTE);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).contains(1L);
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).contains(3L);
+    }
+
+    @Test
+    void sizeNeverExceedsSlots() {
+        OffHeapCache<Long, Long> cache = new OffHeapCache<>(3, 16, 1, LONG_CODEC);
+
+        for (long i = 0; i < 100; i++) {
+            cache.put(i, i, ONE_MINUTE);
+            cache.get(i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(99L)).contains(99L);
+    }
+
+    @Test
+    void valueLargerThanSlotIsNotCached() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(4, 4, 1, LONG_CODEC);
+
+        cache.put("a", 42L, ONE_MINUTE);
+        cache.put("b", 42L, ONE_MINUTE);
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOversizedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void keysAreSpreadAcrossSegments() {
+        OffHeapCache<Long, Long> cache = new OffHeapCache<>(64, 16, 4, LONG_CODEC);
+
+        // 0 ~ 63 의 hash 는 segment 4 개에 16 개씩 나뉘므로 빠지는 값 없이 모두 들어간다.
+        for (long i = 0; i < 64; i++) {
+            cache.put(i, i * 10, ONE_MINUTE);
+        }
+
+        assertThat(cache.size()).isEqualTo(64);
+        for (long i = 0; i < 64; i++) {
+            assertThat(cache.get(i)).contains(i * 10);
+        }
+    }
+
+    @Test
+    void segmentsMustNotExceedSlots() {
+        assertThatThrownBy(() -> new OffHeapCache<>(2, 16, 4, LONG_CODEC)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decodeFailureRemovesEntry() {
+        OffHeapCache<String, Long> cache = new OffHeapCache<>(4, 16, 1, new BinaryCodec<>() {
+            @Override
+            public void write(Long value, ByteBuffer out) {
+                out.putLong(value);
+            }
+
+            @Override
+            public Long read(ByteBuffer in) throws IOException {
+                throw new IOException("broken");
+            }
+        });
+
+        cache.put("a", 42L, ONE_MINUTE);
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+}
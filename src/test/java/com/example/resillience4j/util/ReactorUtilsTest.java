@@ -0,0 +1,173 @@
+package com.example.resillience4j.util;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.resillience4j.util.ReactorUtils.list;
+import static com.example.resillience4j.util.ReactorUtils.object;
+import static com.example.resillience4j.util.ReactorUtils.withTrace;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactorUtilsTest {
+    private ThreadPoolTaskExecutor executor;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setThreadNamePrefix("reactor-test-");
+        executor.initialize();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void recordsSpanWithThreadHandOff() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", () -> "value", "fallback", executor).subscriberContext(withTrace(trace)))
+                    .expectNext("value")
+                    .verifyComplete();
+
+        assertThat(trace.getSpans()).hasSize(1);
+        RequestTrace.Span span = trace.getSpans().get(0);
+        assertThat(span.getName()).isEqualTo("branch");
+        assertThat(span.getSubscribeThread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(span.getExecuteThread()).startsWith("reactor-test-");
+        assertThat(span.getHandOffNanos()).isGreaterThanOrEqualTo(span.getStartNanos());
+        assertThat(span.getEndNanos()).isGreaterThanOrEqualTo(span.getHandOffNanos());
+        assertThat(span.getFallbackReason()).isNull();
+        assertThat(trace.hasFallback()).isFalse();
+    }
+
+    @Test
+    void errorIsRecordedAsFallbackReason() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", () -> {
+                        throw new IllegalStateException("failed");
+                    }, "fallback", executor).subscriberContext(withTrace(trace)))
+                    .expectNext("fallback")
+                    .verifyComplete();
+
+        assertThat(trace.getSpans().get(0).getFallbackReason()).isEqualTo("IllegalStateException");
+        assertThat(trace.hasFallback()).isTrue();
+    }
+
+    @Test
+    void timeoutIsRecordedAsFallbackReason() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", () -> sleepAndGet(500L), "fallback", executor, Duration.ofMillis(50L))
+                                    .subscriberContext(withTrace(trace)))
+                    .expectNext("fallback")
+                    .verifyComplete();
+
+        assertThat(trace.getSpans().get(0).getFallbackReason()).isEqualTo("timeout(50ms)");
+        assertThat(trace.hasFallback()).isTrue();
+    }
+
+    @Test
+    void sentinelResultIsRecordedAsFallback() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+        Object error = new Object();
+
+        StepVerifier.create(object("branch", () -> error, error, executor).subscriberContext(withTrace(trace)))
+                    .expectNext(error)
+                    .verifyComplete();
+
+        assertThat(trace.getSpans().get(0).getFallbackReason()).isEqualTo("fallback value");
+        assertThat(trace.hasFallback()).isTrue();
+    }
+
+    @Test
+    void cachedBoxedResultIsNotFallback() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", () -> false, false, executor).subscriberContext(withTrace(trace)))
+                    .expectNext(false)
+                    .verifyComplete();
+
+        assertThat(trace.hasFallback()).isFalse();
+    }
+
+    @Test
+    void recordsCircuitBreakerState() {
+        circuitBreakerRegistry.circuitBreaker("account").transitionToForcedOpenState();
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", "account", () -> "value", "fallback", executor).subscriberContext(withTrace(trace)))
+                    .expectNext("value")
+                    .verifyComplete();
+
+        RequestTrace.Span span = trace.getSpans().get(0);
+        assertThat(span.getCircuitBreakerName()).isEqualTo("account");
+        assertThat(span.getCircuitBreakerState()).isEqualTo("FORCED_OPEN");
+    }
+
+    @Test
+    void contextPropagatesThroughZipDelayError() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        StepVerifier.create(Mono.zipDelayError(object("slow", () -> sleepAndGet(100L), "fallback", executor),
+                                               list("fast", () -> List.of(1, 2), executor))
+                                .subscriberContext(withTrace(trace)))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+        List<String> names = trace.getSpans()
+                                  .stream()
+                                  .map(RequestTrace.Span::getName)
+                                  .collect(Collectors.toList());
+        assertThat(names).containsExactlyInAnyOrder("slow", "fast");
+        assertThat(trace.getSpans()).allMatch(span -> span.getEndNanos() > 0);
+        assertThat(trace.summary()).contains("critical=[slow ");
+    }
+
+    @Test
+    void unsampledTraceRecordsOnlyFallback() {
+        RequestTrace trace = RequestTrace.start(0.0, circuitBreakerRegistry);
+
+        StepVerifier.create(object("branch", () -> {
+                        throw new IllegalStateException("failed");
+                    }, "fallback", executor).subscriberContext(withTrace(trace)))
+                    .expectNext("fallback")
+                    .verifyComplete();
+
+        assertThat(trace.isSampled()).isFalse();
+        assertThat(trace.getSpans()).isEmpty();
+        assertThat(trace.hasFallback()).isTrue();
+    }
+
+    @Test
+    void fallbackWithoutTraceLeavesNoopUntouched() {
+        StepVerifier.create(ReactorUtils.fallback("fallback"))
+                    .expectNext("fallback")
+                    .verifyComplete();
+
+        assertThat(RequestTrace.NOOP.hasFallback()).isFalse();
+    }
+
+    private static String sleepAndGet(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "value";
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.resillience4j.util;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.example.resillience4j.util.ReactorUtils.object;
+import static com.example.resillience4j.util.ReactorUtils.withTrace;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 예약 상세 조회와 같은 모양(8개 브랜치 fan-out, 브랜치당 1ms)으로 trace 유무에 따른 요청 시간을 비교한다.
+ * 시간이 걸리므로 기본 test 에서는 제외하고 {@code ./gradlew benchmark} 로 실행한다.
+ */
+@Slf4j
+@Tag("benchmark")
+class RequestTraceBenchmarkTest {
+    private static final int BRANCHES = 8;
+    private static final int WARM_UP = 500;
+    private static final int ROUNDS = 10;
+    private static final int REQUESTS_PER_ROUND = 200;
+    private static final double DEFAULT_SAMPLE_RATE = 0.01;
+
+    private ThreadPoolTaskExecutor executor;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(BRANCHES * 2);
+        executor.setThreadNamePrefix("benchmark-");
+        executor.initialize();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void defaultSampleRateOverheadIsUnderFivePercent() {
+        run(() -> null, WARM_UP);
+        run(() -> RequestTrace.start(DEFAULT_SAMPLE_RATE, circuitBreakerRegistry), WARM_UP);
+
+        // 라운드를 번갈아 실행해 JIT, GC, 스케줄링 편차가 한쪽에만 몰리지 않게 하고 라운드별 최솟값을 비교한다.
+        long untraced = Long.MAX_VALUE;
+        long sampled = Long.MAX_VALUE;
+        long fullySampled = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            untraced = Math.min(untraced, run(() -> null, REQUESTS_PER_ROUND));
+            sampled = Math.min(sampled, run(() -> RequestTrace.start(DEFAULT_SAMPLE_RATE, circuitBreakerRegistry), REQUESTS_PER_ROUND));
+            fullySampled = Math.min(fullySampled, run(() -> RequestTrace.start(1.0, circuitBreakerRegistry), REQUESTS_PER_ROUND));
+        }
+
+        double sampledOverhead = (double) (sampled - untraced) / untraced;
+        double fullySampledOverhead = (double) (fullySampled - untraced) / untraced;
+        log.info("untraced={}us/request, sampled({})={}us/request ({}%), fully sampled={}us/request ({}%)",
+                 untraced / REQUESTS_PER_ROUND / 1_000, DEFAULT_SAMPLE_RATE,
+                 sampled / REQUESTS_PER_ROUND / 1_000, String.format("%.2f", sampledOverhead * 100),
+                 fullySampled / REQUESTS_PER_ROUND / 1_000, String.format("%.2f", fullySampledOverhead * 100));
+        assertThat(sampledOverhead).isLessThan(0.05);
+    }
+
+    private long run(Supplier<RequestTrace> traceSupplier, int requests) {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            RequestTrace trace = traceSupplier.get();
+            Mono<List<Object>> request = Mono.zipDelayError(branches(), values -> List.of(values));
+            if (trace != null) {
+                request = request.doFinally(signal -> trace.summary())
+                                 .subscriberContext(withTrace(trace));
+            }
+            request.block();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private List<Mono<String>> branches() {
+        return IntStream.range(0, BRANCHES)
+                        .mapToObj(i -> object("branch " + i, "account", () -> sleepAndGet(1L), "fallback", executor))
+                        .collect(Collectors.toList());
+    }
+
+    private static String sleepAndGet(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "value";
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.resillience4j.util;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Mono;
+
+import static com.example.resillience4j.util.ReactorUtils.object;
+import static com.example.resillience4j.util.ReactorUtils.withTrace;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestTraceTest {
+    private ThreadPoolTaskExecutor executor;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setThreadNamePrefix("trace-test-");
+        executor.initialize();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void recordsSynchronousCall() {
+        circuitBreakerRegistry.circuitBreaker("schedule");
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        String result = trace.record("get appointment", "schedule", () -> sleepAndGet(20L));
+
+        assertThat(result).isEqualTo("value");
+        RequestTrace.Span span = trace.getSpans().get(0);
+        assertThat(span.getName()).isEqualTo("get appointment");
+        assertThat(span.getExecuteThread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(span.getEndNanos() - span.getStartNanos()).isGreaterThanOrEqualTo(20_000_000L);
+        assertThat(span.getCircuitBreakerState()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void endsSynchronousSpanOnError() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        assertThatThrownBy(() -> trace.record("get appointment", "schedule", () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(trace.getSpans().get(0).getEndNanos()).isPositive();
+        assertThat(trace.hasFallback()).isFalse();
+    }
+
+    @Test
+    void unsampledTraceDoesNotRecordSynchronousCall() {
+        RequestTrace trace = RequestTrace.start(0.0, circuitBreakerRegistry);
+
+        assertThat(trace.record("get appointment", "schedule", () -> "value")).isEqualTo("value");
+        assertThat(trace.getSpans()).isEmpty();
+    }
+
+    @Test
+    void criticalPathChainsSequentialCallsBeforeSlowestBranch() {
+        RequestTrace trace = RequestTrace.start(1.0, circuitBreakerRegistry);
+
+        trace.record("get appointment", "schedule", () -> sleepAndGet(20L));
+        Mono.zipDelayError(object("slow", () -> sleepAndGet(100L), "fallback", executor),
+                           object("fast", () -> sleepAndGet(10L), "fallback", executor))
+            .subscriberContext(withTrace(trace))
+            .block();
+
+        String summary = trace.summary();
+        assertThat(summary).contains("critical=[get appointment ");
+        assertThat(summary).contains("] -> [slow ");
+        assertThat(summary).doesNotContain("-> [fast ");
+    }
+
+    private static String sleepAndGet(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "value";
+    }
+}